@@ -23,6 +23,14 @@ dependencies {
     implementation(libs.progressbar)
 
     annotationProcessor(libs.picocli.codegen)
+
+    // Testing dependencies
+    testImplementation(libs.junit)
+    testRuntimeOnly(libs.junit.platform.launcher)
+}
+
+tasks.withType<Test> {
+    useJUnitPlatform()
 }
 
 application {
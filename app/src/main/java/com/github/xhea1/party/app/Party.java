@@ -1,22 +1,32 @@
 package com.github.xhea1.party.app;
 
 import com.github.xhea1.party.app.listener.ProgressBarListener;
+import com.github.xhea1.party.app.util.LineFormatter;
 import com.github.xhea1.party.app.util.TableFormatter;
 import com.github.xhea1.partytools.model.CreatorRecord;
 import com.github.xhea1.partytools.model.FileRecord;
 import com.github.xhea1.partytools.model.PostRecord;
 import com.github.xhea1.partytools.service.PartyHTTPService;
+import com.github.xhea1.partytools.service.ResponseCache;
+import com.github.xhea1.partytools.service.filter.PostFilter;
 import com.google.common.base.Strings;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import picocli.CommandLine;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -47,10 +57,55 @@ class Party {
         }
     }
 
+    /**
+     * Output formats for search results.
+     */
+    enum OutputFormat {
+        TABLE, CSV, JSONL
+    }
+
+    /**
+     * Options for caching API responses, shared by the subcommands.
+     */
+    static class CacheOptions {
+
+        /**
+         * Maximum amount of parsed results kept in memory per endpoint.
+         */
+        private static final int MAX_PARSED_ENTRIES = 1000;
+
+        @CommandLine.Option(names = "-cache-dir",
+                            description = "Directory for caching API responses. Caching is disabled if not set.")
+        @Nullable Path cacheDir;
+
+        @CommandLine.Spec(CommandLine.Spec.Target.MIXEE)
+        CommandLine.Model.CommandSpec spec;
+
+        long cacheSizeMiB = 100;
+
+        @CommandLine.Option(names = "-cache-size", defaultValue = "100",
+                            description = "Maximum size of the response cache in MiB. Defaults to ${DEFAULT-VALUE}.")
+        void setCacheSizeMiB(long cacheSizeMiB) {
+            if (cacheSizeMiB <= 0) {
+                throw new CommandLine.ParameterException(spec.commandLine(), "Invalid value '" + cacheSizeMiB
+                        + "' for option '-cache-size': must be greater than 0.");
+            }
+            this.cacheSizeMiB = cacheSizeMiB;
+        }
+
+        /**
+         * @return the configured cache, or {@code null} if caching is disabled
+         */
+        @Nullable ResponseCache createCache() {
+            return cacheDir != null ? new ResponseCache(cacheDir, cacheSizeMiB * 1024 * 1024, MAX_PARSED_ENTRIES) : null;
+        }
+    }
+
     /**
      * Download subcommand
      */
-    @CommandLine.Command(name = "download", description = "Download all posts of a creator.")
+    @CommandLine.Command(name = "download", description = {"Download all posts of a creator.",
+            "All pages of posts are fetched before downloading. Rate limited requests are retried, but if a page still fails, nothing is downloaded."})
     static class PartyDownload implements Callable<Integer> {
 
         private static final Logger LOGGER = LogManager.getLogger();
@@ -73,12 +128,33 @@ class Party {
         @CommandLine.Option(names = {"-c", "-concurrent"}, description = "Maximum number of concurrent downloads. Defaults to ${DEFAULT-VALUE}.")
         int maxConcurrentDownloads = 5;
 
+        @CommandLine.Option(names = "-from", description = "Only download posts published on or after this date (yyyy-MM-dd, UTC).")
+        @Nullable LocalDate from;
+
+        @CommandLine.Option(names = "-to", description = "Only download posts published on or before this date (yyyy-MM-dd, UTC).")
+        @Nullable LocalDate to;
+
+        @CommandLine.Option(names = "-ext", split = ",",
+                            description = "Only download files with these extensions, e.g. jpg,png,mp4.")
+        Set<String> extensions = new HashSet<>();
+
+        @CommandLine.Option(names = "-mime", split = ",",
+                            description = "Only download files with these MIME types, e.g. image/*,video/mp4. The MIME type is derived from common file extensions, files with other extensions are skipped.")
+        Set<String> mimeTypes = new HashSet<>();
+
+        @CommandLine.Option(names = "-title", description = "Only download posts whose title matches this regular expression.")
+        @Nullable Pattern titlePattern;
+
+        @CommandLine.Mixin
+        CacheOptions cacheOptions = new CacheOptions();
+
         @Override
         public Integer call() {
-            PartyHTTPService partyHTTPService = new PartyHTTPService(site.baseUrl);
             LOGGER.info("Downloading {} posts from user {} for service {}...", service, creator, site.name());
-            try {
-                List<PostRecord> postsForUser = partyHTTPService.getPostsForUser(service, creator);
+            try (ResponseCache cache = cacheOptions.createCache()) {
+                PartyHTTPService partyHTTPService = new PartyHTTPService(site.baseUrl, cache);
+                PostFilter filter = PostFilter.ofDates(from, to, extensions, mimeTypes, titlePattern);
+                List<PostRecord> postsForUser = partyHTTPService.getPostsForUser(service, creator, filter);
                 Set<FileRecord> filesToDownload = HashSet.newHashSet(postsForUser.size());
                 postsForUser.forEach(post -> {
                     post.file()
@@ -97,6 +173,9 @@ class Party {
                 LOGGER.info("All files downloaded.");
                 LOGGER.info("Successful downloads: {}", successfulDownloads);
                 LOGGER.info("Failed downloads: {}", failedDownloads);
+                if (cache != null) {
+                    LOGGER.debug("Cache statistics: {}", cache.getStatistics());
+                }
                 return 0;
             } catch (Exception e) {
                 LOGGER.error("Error during download: ", e);
@@ -121,10 +200,23 @@ class Party {
                             description = "Optionally filter creators by service, e.g. fansly, onlyfans, patreon, discord, etc.")
         String service;
 
+        @CommandLine.Option(names = "-format",
+                            description = "Output format. Available choices: ${COMPLETION-CANDIDATES}. Defaults to ${DEFAULT-VALUE}.")
+        OutputFormat format = OutputFormat.TABLE;
+
+        @CommandLine.Mixin
+        CacheOptions cacheOptions = new CacheOptions();
+
         @Override
         public Integer call() throws Exception {
-            PartyHTTPService partyHTTPService = new PartyHTTPService(site.baseUrl);
-            Set<CreatorRecord> creators = partyHTTPService.getCreators();
+            Set<CreatorRecord> creators;
+            try (ResponseCache cache = cacheOptions.createCache()) {
+                PartyHTTPService partyHTTPService = new PartyHTTPService(site.baseUrl, cache);
+                creators = partyHTTPService.getCreators();
+                if (cache != null) {
+                    LOGGER.debug("Cache statistics: {}", cache.getStatistics());
+                }
+            }
             if (!Strings.isNullOrEmpty(service)) {
                 creators = creators.stream()
                         .filter(c -> c.service().equalsIgnoreCase(service))
@@ -133,10 +225,20 @@ class Party {
             creators = creators.stream()
                     .filter(c -> c.name().equalsIgnoreCase(creator))
                     .collect(Collectors.toSet());
-            LOGGER.info("Found {} creators: ", creators.size());
-            if(!creators.isEmpty()) {
-                LOGGER.info("\n{}" , TableFormatter.formatCreators(creators));
+            // only the table is meant for humans, keep the output of the other formats free of log messages
+            if (format == OutputFormat.TABLE) {
+                LOGGER.info("Found {} creators: ", creators.size());
+                if (creators.isEmpty()) {
+                    return 0;
+                }
+            }
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            switch (format) {
+                case TABLE -> TableFormatter.writeCreators(creators, writer);
+                case CSV -> LineFormatter.writeCsv(creators, writer);
+                case JSONL -> LineFormatter.writeJsonLines(creators, writer);
             }
+            writer.flush();
             return 0;
         }
     }
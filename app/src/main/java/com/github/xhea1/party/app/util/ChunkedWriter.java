@@ -0,0 +1,58 @@
+package com.github.xhea1.party.app.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Collects formatted rows in a buffer and passes them to a {@link Writer} in chunks of about {@link #CHUNK_SIZE}
+ * characters.
+ */
+final class ChunkedWriter {
+
+    /**
+     * Rows are collected in the buffer and written once it reaches this size.
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder(CHUNK_SIZE * 2);
+
+    /**
+     * @param writer writer to write to. It is neither flushed nor closed.
+     */
+    ChunkedWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @return buffer to append the current row to
+     */
+    StringBuilder buffer() {
+        return buffer;
+    }
+
+    /**
+     * Mark the end of a row, writing the buffer if it is full.
+     *
+     * @throws IOException If writing fails.
+     */
+    void endRow() throws IOException {
+        if (buffer.length() >= CHUNK_SIZE) {
+            write();
+        }
+    }
+
+    /**
+     * Write the remaining buffer.
+     *
+     * @throws IOException If writing fails.
+     */
+    void finish() throws IOException {
+        write();
+    }
+
+    private void write() throws IOException {
+        writer.append(buffer);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.xhea1.party.app.util;
+
+import com.github.xhea1.partytools.model.CreatorRecord;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * Utility class for writing creators in line-based, machine-readable formats. Each creator is written as soon as it is
+ * formatted, so the output can be piped into other tools.
+ */
+public class LineFormatter {
+
+    private LineFormatter() {
+    }
+
+    /**
+     * Writes creators as CSV with a header line. Fields are quoted only if needed.
+     *
+     * @param creators creators to write
+     * @param writer   writer to write to. It is neither flushed nor closed.
+     * @throws IOException If writing fails.
+     */
+    public static void writeCsv(Collection<CreatorRecord> creators, Writer writer) throws IOException {
+        ChunkedWriter out = new ChunkedWriter(writer);
+        StringBuilder sb = out.buffer();
+        sb.append("id,name,service,updated\n");
+        for (CreatorRecord c : creators) {
+            appendCsvField(sb, c.id()).append(',');
+            appendCsvField(sb, c.name()).append(',');
+            appendCsvField(sb, c.service()).append(',');
+            sb.append(c.updated())
+                    .append('\n');
+            out.endRow();
+        }
+        out.finish();
+    }
+
+    /**
+     * Writes creators as JSON Lines, one JSON object per creator.
+     *
+     * @param creators creators to write
+     * @param writer   writer to write to. It is neither flushed nor closed.
+     * @throws IOException If writing fails.
+     */
+    public static void writeJsonLines(Collection<CreatorRecord> creators, Writer writer) throws IOException {
+        ChunkedWriter out = new ChunkedWriter(writer);
+        StringBuilder sb = out.buffer();
+        for (CreatorRecord c : creators) {
+            sb.append("{\"id\":");
+            appendJsonString(sb, c.id()).append(",\"name\":");
+            appendJsonString(sb, c.name()).append(",\"service\":");
+            appendJsonString(sb, c.service()).append(",\"updated\":\"")
+                    .append(c.updated())
+                    .append("\"}\n");
+            out.endRow();
+        }
+        out.finish();
+    }
+
+    /**
+     * Appends a CSV field, quoting it if it contains a separator, quote or line break.
+     *
+     * @param sb    buffer to append to
+     * @param value field value
+     * @return the buffer
+     */
+    private static StringBuilder appendCsvField(StringBuilder sb, String value) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char ch = value.charAt(i);
+            needsQuotes = ch == ',' || ch == '"' || ch == '\n' || ch == '\r';
+        }
+        if (!needsQuotes) {
+            return sb.append(value);
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"') {
+                sb.append('"');
+            }
+            sb.append(ch);
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Appends a quoted and escaped JSON string.
+     *
+     * @param sb    buffer to append to
+     * @param value string value
+     * @return the buffer
+     */
+    private static StringBuilder appendJsonString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        sb.append("\\u00")
+                                .append(Character.forDigit(ch >> 4, 16))
+                                .append(Character.forDigit(ch & 0xF, 16));
+                    } else {
+                        sb.append(ch);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+}
@@ -2,93 +2,107 @@ package com.github.xhea1.party.app.util;
 
 import com.github.xhea1.partytools.model.CreatorRecord;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.Writer;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Utility class for formatting tables.
  */
 public class TableFormatter {
 
+    private static final String[] HEADERS = {"ID", "Name", "Service", "Updated"};
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneOffset.UTC);
+
+    /**
+     * Length of a date formatted with {@link #DATE_FORMATTER}.
+     */
+    private static final int DATE_WIDTH = 16;
+
     private TableFormatter() {
     }
 
     /**
-     * Formats a list of CreatorRecords into a table string.
+     * Writes a list of CreatorRecords as a table to the given writer. The column widths are determined in a single
+     * pass over the creators, afterwards the rows are written in chunks of a few kilobytes.
      * <p>
-     * If the input list is empty, returns "No creators to display."
+     * If the input list is empty, writes "No creators to display."
      *
      * @param creators List of CreatorRecord objects
-     * @return Formatted table string
+     * @param writer   writer to write the table to. It is neither flushed nor closed.
+     * @throws IOException If writing fails.
      */
-    public static String formatCreators(Collection<CreatorRecord> creators) {
-        if (creators.isEmpty()) return "No creators to display.";
-
-        // headers
-        List<String> headers = List.of("ID", "Name", "Service", "Updated");
-
-        // formatters
-        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        // rows as string lists
-        List<List<String>> rows = creators.stream()
-                .map(c -> List.of(c.id(), c.name(), c.service(),
-                                  dtf.format(LocalDateTime.ofInstant(c.updated(), ZoneOffset.UTC))))
-                .collect(Collectors.toList());
-
-        // add headers
-        rows.addFirst(headers);
+    public static void writeCreators(Collection<CreatorRecord> creators, Writer writer) throws IOException {
+        if (creators.isEmpty()) {
+            writer.write("No creators to display.");
+            return;
+        }
 
         // calculate column widths
-        int[] colWidths = new int[headers.size()];
-        for (List<String> row : rows) {
-            for (int i = 0; i < row.size(); i++) {
-                colWidths[i] = Math.max(colWidths[i], row.get(i)
-                        .length());
-            }
+        int[] colWidths = {HEADERS[0].length(), HEADERS[1].length(), HEADERS[2].length(),
+                           Math.max(HEADERS[3].length(), DATE_WIDTH)};
+        for (CreatorRecord c : creators) {
+            colWidths[0] = Math.max(colWidths[0], c.id().length());
+            colWidths[1] = Math.max(colWidths[1], c.name().length());
+            colWidths[2] = Math.max(colWidths[2], c.service().length());
         }
 
         // separator line
-        String sep = "+" + Arrays.stream(colWidths)
-                .mapToObj(w -> "-".repeat(w + 2))
-                .collect(Collectors.joining("+")) + "+";
-
-        // build table
-        StringBuilder sb = new StringBuilder();
-        sb.append(sep)
-                .append("\n");
-
-        for (int r = 0; r < rows.size(); r++) {
-            List<String> row = rows.get(r);
-            sb.append("|");
-            for (int i = 0; i < row.size(); i++) {
-                sb.append(" ")
-                        .append(padRight(row.get(i), colWidths[i]))
-                        .append(" |");
-            }
-            sb.append("\n");
-            if (r == 0 || r == rows.size() - 1) sb.append(sep)
-                    .append("\n");
+        StringBuilder sep = new StringBuilder("+");
+        for (int w : colWidths) {
+            sep.repeat('-', w + 2).append('+');
+        }
+        sep.append('\n');
+
+        ChunkedWriter out = new ChunkedWriter(writer);
+        StringBuilder sb = out.buffer();
+        sb.append(sep);
+        appendRow(sb, colWidths, HEADERS);
+        sb.append(sep);
+
+        String[] row = new String[HEADERS.length];
+        for (CreatorRecord c : creators) {
+            row[0] = c.id();
+            row[1] = c.name();
+            row[2] = c.service();
+            row[3] = DATE_FORMATTER.format(c.updated());
+            appendRow(sb, colWidths, row);
+            out.endRow();
         }
+        sb.append(sep);
+        out.finish();
+    }
 
-        return sb.toString();
+    /**
+     * Appends a single row of the table.
+     *
+     * @param sb        buffer to append to
+     * @param colWidths width of each column
+     * @param row       cells of the row
+     */
+    private static void appendRow(StringBuilder sb, int[] colWidths, String[] row) {
+        sb.append('|');
+        for (int i = 0; i < row.length; i++) {
+            sb.append(' ');
+            padRight(sb, row[i], colWidths[i]);
+            sb.append(" |");
+        }
+        sb.append('\n');
     }
 
     /**
-     * Pads a string to the right with spaces, up to a maximum length.
+     * Appends a string padded to the right with spaces, up to a maximum length.
      *
-     * @param s Input string
-     * @param n Maximum length
-     * @return Padded string
+     * @param sb buffer to append to
+     * @param s  Input string
+     * @param n  Maximum length
      */
-    private static String padRight(String s, int n) {
-        return String.format("%-" + n + "s", s);
+    private static void padRight(StringBuilder sb, String s, int n) {
+        sb.append(s)
+                .repeat(' ', n - s.length());
     }
 }
-
-
@@ -0,0 +1,128 @@
+package com.github.xhea1.party.app.util;
+
+import com.github.xhea1.partytools.model.CreatorRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LineFormatterTest {
+
+    private static final Instant UPDATED = Instant.parse("2024-01-02T03:04:05Z");
+
+    @Test
+    void csvQuotesOnlyWhenNeeded() throws IOException {
+        List<CreatorRecord> creators = List.of(new CreatorRecord("1", "plain", "patreon", UPDATED),
+                                               new CreatorRecord("2", "a,b", "fanbox", UPDATED),
+                                               new CreatorRecord("3", "say \"hi\"", "fansly", UPDATED),
+                                               new CreatorRecord("4", "two\nlines\r", "gumroad", UPDATED),
+                                               new CreatorRecord("5", "back\\slash\u0001", "patreon", UPDATED));
+
+        assertEquals("""
+                             id,name,service,updated
+                             1,plain,patreon,2024-01-02T03:04:05Z
+                             2,"a,b",fanbox,2024-01-02T03:04:05Z
+                             3,"say ""hi""\",fansly,2024-01-02T03:04:05Z
+                             4,"two
+                             lines\r",gumroad,2024-01-02T03:04:05Z
+                             5,back\\slash\u0001,patreon,2024-01-02T03:04:05Z
+                             """, csv(creators));
+    }
+
+    @Test
+    void csvOfNoCreatorsIsHeaderOnly() throws IOException {
+        assertEquals("id,name,service,updated\n", csv(List.of()));
+    }
+
+    @Test
+    void jsonLinesEscapesStrings() throws IOException {
+        List<CreatorRecord> creators = List.of(new CreatorRecord("1", "a,b", "patreon", UPDATED),
+                                               new CreatorRecord("2", "say \"hi\"", "fanbox", UPDATED),
+                                               new CreatorRecord("3", "two\nlines\r\ttab", "fansly", UPDATED),
+                                               new CreatorRecord("4", "back\\slash\u0001\u001f", "gumroad", UPDATED));
+
+        assertEquals("""
+                             {"id":"1","name":"a,b","service":"patreon","updated":"2024-01-02T03:04:05Z"}
+                             {"id":"2","name":"say \\"hi\\"","service":"fanbox","updated":"2024-01-02T03:04:05Z"}
+                             {"id":"3","name":"two\\nlines\\r\\ttab","service":"fansly","updated":"2024-01-02T03:04:05Z"}
+                             {"id":"4","name":"back\\\\slash\\u0001\\u001f","service":"gumroad","updated":"2024-01-02T03:04:05Z"}
+                             """, jsonLines(creators));
+    }
+
+    @Test
+    void jsonLinesOfNoCreatorsIsEmpty() throws IOException {
+        assertEquals("", jsonLines(List.of()));
+    }
+
+    @Test
+    void outputLongerThanChunkIsWrittenInChunks() throws IOException {
+        List<CreatorRecord> creators = new ArrayList<>();
+        StringBuilder expected = new StringBuilder("id,name,service,updated\n");
+        for (int i = 0; expected.length() < ChunkedWriter.CHUNK_SIZE * 3; i++) {
+            creators.add(new CreatorRecord(String.valueOf(i), "creator " + i, "patreon", UPDATED));
+            expected.append(i)
+                    .append(",creator ")
+                    .append(i)
+                    .append(",patreon,2024-01-02T03:04:05Z\n");
+        }
+        CountingWriter writer = new CountingWriter();
+
+        LineFormatter.writeCsv(creators, writer);
+
+        assertEquals(expected.toString(), writer.toString());
+        assertTrue(writer.writes > 1);
+    }
+
+    private static String csv(List<CreatorRecord> creators) throws IOException {
+        StringWriter writer = new StringWriter();
+        LineFormatter.writeCsv(creators, writer);
+        return writer.toString();
+    }
+
+    private static String jsonLines(List<CreatorRecord> creators) throws IOException {
+        StringWriter writer = new StringWriter();
+        LineFormatter.writeJsonLines(creators, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Writer which counts how often it is written to.
+     */
+    private static class CountingWriter extends Writer {
+        private final StringBuilder content = new StringBuilder();
+        private int writes;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            writes++;
+            content.append(cbuf, off, len);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            writes++;
+            content.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return content.toString();
+        }
+    }
+}
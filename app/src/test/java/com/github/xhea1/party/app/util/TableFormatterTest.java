@@ -0,0 +1,41 @@
+package com.github.xhea1.party.app.util;
+
+import com.github.xhea1.partytools.model.CreatorRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TableFormatterTest {
+
+    @Test
+    void creatorsAreWrittenAsTable() throws IOException {
+        List<CreatorRecord> creators = List.of(
+                new CreatorRecord("12345", "alice", "patreon", Instant.parse("2024-01-02T03:04:05Z")),
+                new CreatorRecord("7", "bob the builder", "fansly", Instant.parse("2023-12-31T23:59:00Z")));
+
+        assertEquals("""
+                             +-------+-----------------+---------+------------------+
+                             | ID    | Name            | Service | Updated          |
+                             +-------+-----------------+---------+------------------+
+                             | 12345 | alice           | patreon | 2024-01-02 03:04 |
+                             | 7     | bob the builder | fansly  | 2023-12-31 23:59 |
+                             +-------+-----------------+---------+------------------+
+                             """, table(creators));
+    }
+
+    @Test
+    void noCreatorsWritesMessage() throws IOException {
+        assertEquals("No creators to display.", table(List.of()));
+    }
+
+    private static String table(List<CreatorRecord> creators) throws IOException {
+        StringWriter writer = new StringWriter();
+        TableFormatter.writeCreators(creators, writer);
+        return writer.toString();
+    }
+}
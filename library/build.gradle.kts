@@ -35,6 +35,8 @@ dependencies {
 
     // Testing dependencies
     testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
+    testRuntimeOnly(libs.junit.platform.launcher)
 }
 
 publishing {
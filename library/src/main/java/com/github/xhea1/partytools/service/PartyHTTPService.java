@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.xhea1.partytools.model.CreatorRecord;
 import com.github.xhea1.partytools.model.FileRecord;
 import com.github.xhea1.partytools.model.PostRecord;
+import com.github.xhea1.partytools.service.filter.PostFilter;
 import com.github.xhea1.partytools.service.listener.DownloadListener;
 import com.google.common.base.Strings;
 import okhttp3.OkHttpClient;
@@ -16,7 +17,12 @@ import org.jspecify.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -29,9 +35,18 @@ import java.util.stream.Collectors;
 public class PartyHTTPService {
     private static final String DOWNLOAD_SUBPATH = "/data/";
     private static final String API_SUBPATH = "api/v1";
-    private final OkHttpClient client = new OkHttpClient();
+    /**
+     * Amount of posts returned per page by the user endpoint.
+     */
+    static final int PAGE_SIZE = 50;
+    /**
+     * Amount of retries for requests which are rate limited or hit an unavailable server.
+     */
+    private static final int MAX_RETRIES = 3;
+    private final OkHttpClient client;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final String baseUrl;
+    private final @Nullable ResponseCache cache;
 
 
     /**
@@ -41,37 +56,87 @@ public class PartyHTTPService {
      *                {@code https://kemono.su/}
      */
     public PartyHTTPService(String baseUrl) {
+        this(baseUrl, null);
+    }
+
+    /**
+     * Constructs an HTTPService with the specified base URL, caching API responses in the given cache. Results of
+     * {@link #getPostsByHash(String)} and {@link #getCreators()} are unmodifiable when a cache is used.
+     *
+     * @param baseUrl The base URL for the API endpoint. Usually either {@code https://coomer.su/} or
+     *                {@code https://kemono.su/}
+     * @param cache   cache for API responses, or {@code null} to disable caching
+     */
+    public PartyHTTPService(String baseUrl, @Nullable ResponseCache cache) {
         this.baseUrl = baseUrl;
+        this.cache = cache;
+        OkHttpClient.Builder builder = new OkHttpClient.Builder().addInterceptor(
+                new RetryInterceptor(MAX_RETRIES, Duration.ofSeconds(1), Duration.ofSeconds(30)));
+        this.client = (cache != null ? cache.configure(builder) : builder).build();
     }
 
     /**
-     * @param post JSON Node for the post
-     * @return {@link PostRecord}
+     * @param post             JSON Node for the post
+     * @param publishedInstant parsed publishing date, only required if the filter has a date window
+     * @param filter           filter to apply to the post and its files
+     * @return {@link PostRecord}, or {@code null} if the post does not match the filter
      */
-    private PostRecord getPostRecord(JsonNode post) {
+    private static @Nullable PostRecord getPostRecord(JsonNode post, @Nullable Instant publishedInstant, PostFilter filter) {
+        String title = post.get("title")
+                .asText();
+        if (!filter.matchesPost(publishedInstant, title)) {
+            return null;
+        }
         Optional<FileRecord> file = Optional.empty();
         var fileNode = post.get("file");
-        if (!fileNode.isEmpty()) {
+        if (!fileNode.isEmpty() && filter.matchesFile(fileNode.get("name")
+                                                              .asText())) {
             file = Optional.of(getFileRecord(fileNode));
         }
         List<FileRecord> attachments = new ArrayList<>();
         for (JsonNode attachment : post.get("attachments")) {
-            attachments.add(getFileRecord(attachment));
+            if (filter.matchesFile(attachment.get("name")
+                                           .asText())) {
+                attachments.add(getFileRecord(attachment));
+            }
+        }
+        if (filter.hasFileCriteria() && file.isEmpty() && attachments.isEmpty()) {
+            return null;
         }
         JsonNode fileId = post.get("file_id");
         return new PostRecord(fileId != null ? OptionalInt.of(fileId.asInt()) : OptionalInt.empty(), post.get("id")
                 .asText(), post.get("user")
                                       .asText(), post.get("service")
-                                      .asText(), post.get("title")
-                                      .asText(), post.get("published")
-                                      .asText(), Optional.ofNullable(post.get("substring")).map(JsonNode::asText), file, attachments);
+                                      .asText(), title, post.get("published")
+                                      .asText(),
+                              Optional.ofNullable(post.get("substring")).map(JsonNode::asText), file, attachments);
+    }
+
+    /**
+     * Parse the publishing date of a post. The API returns local date times without an offset, which are in UTC.
+     *
+     * @param published publishing date as returned by the API
+     * @return parsed {@link Instant}, or {@code null} if the date could not be parsed
+     */
+    private static @Nullable Instant parsePublished(String published) {
+        try {
+            return LocalDateTime.parse(published)
+                    .toInstant(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(published)
+                        .toInstant();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
     }
 
     /**
      * @param fileNode JSON node
      * @return {@link FileRecord}
      */
-    private FileRecord getFileRecord(JsonNode fileNode) {
+    private static FileRecord getFileRecord(JsonNode fileNode) {
         return new FileRecord(fileNode.get("name")
                                       .asText(), fileNode.get("path")
                                       .asText());
@@ -92,7 +157,7 @@ public class PartyHTTPService {
         }
         String url = baseUrl + API_SUBPATH + "/search_hash/" + fileHash;
 
-        return executeQueryForPosts(url);
+        return cached(ResponseCache.Endpoint.SEARCH_HASH, url, () -> executeQueryForPosts(url));
     }
 
     /**
@@ -103,43 +168,103 @@ public class PartyHTTPService {
      * @throws IOException If the request fails or the response is invalid.
      */
     private List<PostRecord> executeQueryForPosts(String url) throws IOException {
+        return new ArrayList<>(executeQueryForPosts(url, PostFilter.ALL, false).posts());
+    }
+
+    /**
+     * Execute a query which returns post data, applying the filter while parsing.
+     *
+     * @param url         url to query
+     * @param filter      filter to apply to the posts
+     * @param failOnError whether an unsuccessful response throws instead of being treated as an empty page
+     * @return the fetched page with the matching posts
+     * @throws IOException If the request fails or the response is invalid.
+     */
+    private Page executeQueryForPosts(String url, PostFilter filter, boolean failOnError) throws IOException {
         // Create HTTP GET request
         Request request = new Request.Builder().url(url)
                 .build();
-        List<PostRecord> postRecords = new ArrayList<>();
         try (Response response = client.newCall(request)
                 .execute()) {
-            if (response.isSuccessful()) {
-                String jsonResponse = response.body()
-                        .string();
-                JsonNode rootNode = objectMapper.readTree(jsonResponse);
-
-                // Extract `posts` array if it exists in the response
-                JsonNode posts = rootNode;
-                if (rootNode.has(("posts"))) {
-                    posts = rootNode.get("posts");
-                }
-                if (posts != null && posts.isArray()) {
-                    for (JsonNode post : posts) {
-                        PostRecord postRecord = getPostRecord(post);
-                        postRecords.add(postRecord);
-                    }
+            if (!response.isSuccessful()) {
+                if (failOnError) {
+                    throw new IOException("Request to " + url + " failed: " + response);
                 }
+                return Page.empty();
+            }
+            String jsonResponse = response.body()
+                    .string();
+            return parsePage(objectMapper.readTree(jsonResponse), filter);
+        }
+    }
+
+    /**
+     * Parse a response containing post data, applying the filter while parsing.
+     *
+     * @param rootNode root node of the response
+     * @param filter   filter to apply to the posts
+     * @return the parsed page with the matching posts
+     */
+    static Page parsePage(JsonNode rootNode, PostFilter filter) {
+        // Extract `posts` array if it exists in the response
+        JsonNode posts = rootNode;
+        if (rootNode.has(("posts"))) {
+            posts = rootNode.get("posts");
+        }
+        if (posts == null || !posts.isArray() || posts.isEmpty()) {
+            return Page.empty();
+        }
+        List<PostRecord> postRecords = new ArrayList<>();
+        boolean pastWindow = false;
+        for (JsonNode post : posts) {
+            Instant published = filter.hasDateWindow() ? parsePublished(post.get("published")
+                                                                                .asText()) : null;
+            if (filter.isPastWindow(published)) {
+                // posts are sorted newest first, so the rest of the page is outside the window as well
+                pastWindow = true;
+                break;
+            }
+            PostRecord postRecord = getPostRecord(post, published, filter);
+            if (postRecord != null) {
+                postRecords.add(postRecord);
             }
         }
-        return postRecords;
+        return new Page(postRecords, posts.size(), posts.get(0)
+                .get("id")
+                .asText(), pastWindow);
     }
 
     /**
-     * Get all posts of the given user.
+     * Get all posts of the given user. All pages of the user are fetched, see
+     * {@link #getPostsForUser(String, String, PostFilter)}.
      *
      * @param service   service to fetch data from. Values include {@code fansly}, {@code onlyfans}, {@code patreon} and
      *                  others.
      * @param creatorId the ID of the creator
      * @return @return A list of {@link PostRecord} containing all found posts.
-     * @throws IOException If the request fails or the response is invalid.
+     * @throws IOException If a request fails or the response is invalid.
      */
     public List<PostRecord> getPostsForUser(String service, String creatorId) throws IOException {
+        return getPostsForUser(service, creatorId, PostFilter.ALL);
+    }
+
+    /**
+     * Get all posts of the given user which match the filter. All pages of the user are fetched one after another,
+     * unless the date window of the filter has been passed, in which case no further pages are requested.
+     * <p>
+     * Pages which are rate limited ({@code 429}) or hit an unavailable server ({@code 503}) are retried a few times,
+     * honoring {@code Retry-After}. If a page still fails, the whole lookup fails, as returning the pages fetched so
+     * far would silently drop the older posts.
+     *
+     * @param service   service to fetch data from. Values include {@code fansly}, {@code onlyfans}, {@code patreon} and
+     *                  others.
+     * @param creatorId the ID of the creator
+     * @param filter    filter to apply to the posts and their files
+     * @return A list of {@link PostRecord} containing all matching posts.
+     * @throws IOException If a request fails or the response is invalid. A failed page is never treated as the last
+     *                     page, so no partial result is returned.
+     */
+    public List<PostRecord> getPostsForUser(String service, String creatorId, PostFilter filter) throws IOException {
         if (Strings.isNullOrEmpty(service)) {
             throw new IllegalArgumentException("service must not be null");
         }
@@ -147,7 +272,20 @@ public class PartyHTTPService {
             throw new IllegalArgumentException("creatorId must not be null");
         }
         String url = "%s%s/%s/user/%s".formatted(baseUrl, API_SUBPATH, service, creatorId);
-        return executeQueryForPosts(url);
+        List<PostRecord> postRecords = new ArrayList<>();
+        @Nullable String previousFirstId = null;
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            String pageUrl = url + "?o=" + offset;
+            Page page = cache != null
+                    ? cache.get(ResponseCache.Endpoint.USER_POSTS, new PageKey(pageUrl, filter),
+                                () -> executeQueryForPosts(pageUrl, filter, true))
+                    : executeQueryForPosts(pageUrl, filter, true);
+            postRecords.addAll(page.posts());
+            if (page.isLast(previousFirstId)) {
+                return postRecords;
+            }
+            previousFirstId = page.firstId();
+        }
     }
 
     /**
@@ -175,8 +313,23 @@ public class PartyHTTPService {
      * @throws IOException If the request fails or the response is invalid.
      */
     public Set<CreatorRecord> getCreators() throws IOException {
+        String url = baseUrl + API_SUBPATH + "/creators.txt";
+        if (cache != null) {
+            return cache.get(ResponseCache.Endpoint.CREATORS, url, () -> Set.copyOf(loadCreators(url)));
+        }
+        return loadCreators(url);
+    }
+
+    /**
+     * Load all creators from the API.
+     *
+     * @param url url of the creator list
+     * @return Set of all creators known as {@link CreatorRecord}
+     * @throws IOException If the request fails or the response is invalid.
+     */
+    private Set<CreatorRecord> loadCreators(String url) throws IOException {
         Set<CreatorRecord> creators = new HashSet<>();
-        Request request = new Request.Builder().url(baseUrl + API_SUBPATH + "/creators.txt")
+        Request request = new Request.Builder().url(url)
                 .build();
         try (Response response = client.newCall(request)
                 .execute()) {
@@ -200,10 +353,71 @@ public class PartyHTTPService {
         return creators;
     }
 
+    /**
+     * Look up a list of posts in the parsed tier of the cache, if caching is enabled.
+     *
+     * @param endpoint endpoint of the url
+     * @param url      url to query
+     * @param loader   loader for the posts
+     * @return cached or loaded posts
+     * @throws IOException If the request fails or the response is invalid.
+     */
+    private List<PostRecord> cached(ResponseCache.Endpoint endpoint, String url,
+                                    ResponseCache.Loader<List<PostRecord>> loader) throws IOException {
+        if (cache == null) {
+            return loader.load();
+        }
+        return cache.get(endpoint, url, () -> List.copyOf(loader.load()));
+    }
+
     /**
      * Create the URL for a download
      */
     private String createDownloadUrl(String path) {
         return baseUrl + DOWNLOAD_SUBPATH + path;
     }
+
+    /**
+     * A fetched page of posts.
+     *
+     * @param posts      posts on the page which match the filter. The list is unmodifiable, as pages are shared
+     *                   through the parsed tier of the cache.
+     * @param size       amount of posts on the page, before filtering
+     * @param firstId    ID of the first post on the page
+     * @param pastWindow whether the page reached posts older than the date window of the filter
+     */
+    record Page(List<PostRecord> posts, int size, @Nullable String firstId, boolean pastWindow) {
+
+        Page {
+            posts = List.copyOf(posts);
+        }
+
+        /**
+         * @return a page without posts
+         */
+        static Page empty() {
+            return new Page(List.of(), 0, null, false);
+        }
+
+        /**
+         * Check whether no further pages need to be requested. This is the case on the last page, once the date window
+         * has been passed, or if the API did not honor the offset and returned the previous page again.
+         *
+         * @param previousFirstId ID of the first post on the previous page, or {@code null} for the first page
+         * @return {@code true} if paging should stop
+         */
+        boolean isLast(@Nullable String previousFirstId) {
+            return size < PAGE_SIZE || pastWindow || Objects.equals(firstId, previousFirstId);
+        }
+    }
+
+    /**
+     * Key of a page of user posts in the parsed tier of the cache. The filter is part of the key, as it is applied
+     * while parsing.
+     *
+     * @param url    url of the page
+     * @param filter filter applied to the page
+     */
+    private record PageKey(String url, PostFilter filter) {
+    }
 }
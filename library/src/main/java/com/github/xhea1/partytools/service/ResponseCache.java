@@ -0,0 +1,248 @@
+package com.github.xhea1.partytools.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Two-tier cache for the {@code /api/v1} endpoints used by {@link PartyHTTPService}.
+ * <p>
+ * The first tier is a size-bounded disk cache for the raw HTTP responses with LRU eviction. Responses are considered
+ * fresh for the TTL of their {@link Endpoint}, afterwards they are revalidated with a conditional request if the server
+ * sent an {@code ETag} or {@code Last-Modified} header. The second tier keeps parsed results in memory for the same
+ * TTL, so repeated lookups skip the JSON parsing entirely. Results served from this tier are shared and unmodifiable.
+ * <p>
+ * A single instance may be shared by several services. It should be closed once it is no longer needed.
+ */
+@NullMarked
+public class ResponseCache implements AutoCloseable {
+
+    /**
+     * Cached API endpoints.
+     */
+    public enum Endpoint {
+        /**
+         * {@code /search_hash/{file_hash}}. Posts for a hash rarely change, so these are kept the longest.
+         */
+        SEARCH_HASH(Duration.ofHours(1)),
+        /**
+         * {@code /{service}/user/{creator_id}}
+         */
+        USER_POSTS(Duration.ofMinutes(5)),
+        /**
+         * {@code /creators.txt}
+         */
+        CREATORS(Duration.ofMinutes(10));
+
+        private final Duration defaultTtl;
+
+        Endpoint(Duration defaultTtl) {
+            this.defaultTtl = defaultTtl;
+        }
+
+        /**
+         * @return TTL used if none is configured
+         */
+        public Duration getDefaultTtl() {
+            return defaultTtl;
+        }
+
+        /**
+         * @param url requested url
+         * @return the endpoint for the url, or {@code null} if it is not a cached API endpoint
+         */
+        static @Nullable Endpoint of(HttpUrl url) {
+            String path = url.encodedPath();
+            if (!path.contains("/api/v1/")) {
+                return null;
+            }
+            if (path.contains("/search_hash/")) {
+                return SEARCH_HASH;
+            }
+            if (path.contains("/user/")) {
+                return USER_POSTS;
+            }
+            if (path.endsWith("/creators.txt")) {
+                return CREATORS;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Loads a value on a cache miss.
+     *
+     * @param <T> type of the loaded value
+     */
+    @FunctionalInterface
+    interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    /**
+     * Hit and miss counts of both tiers.
+     *
+     * @param httpRequests amount of HTTP requests which went through the disk cache
+     * @param httpHits     amount of HTTP requests served by the disk cache, including successful revalidations
+     * @param httpNetwork  amount of HTTP requests which needed the network
+     * @param parsedHits   amount of lookups served from the parsed in-memory tier
+     * @param parsedMisses amount of lookups which had to be loaded
+     */
+    public record CacheStatistics(long httpRequests, long httpHits, long httpNetwork, long parsedHits,
+                                  long parsedMisses) {
+    }
+
+    private final okhttp3.Cache httpCache;
+    private final Map<Endpoint, Duration> ttls = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Cache<Object, Object>> parsedCaches = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Creates a cache with the default TTL for each endpoint.
+     *
+     * @param directory        directory for the disk cache
+     * @param maxSizeBytes     maximum size of the disk cache in bytes
+     * @param maxParsedEntries maximum amount of parsed results (lists of posts, pages of user posts or creator lists)
+     *                         kept in memory per endpoint
+     */
+    public ResponseCache(Path directory, long maxSizeBytes, long maxParsedEntries) {
+        this(directory, maxSizeBytes, maxParsedEntries, Map.of());
+    }
+
+    /**
+     * @param directory        directory for the disk cache
+     * @param maxSizeBytes     maximum size of the disk cache in bytes
+     * @param maxParsedEntries maximum amount of parsed results (lists of posts, pages of user posts or creator lists)
+     *                         kept in memory per endpoint
+     * @param ttls             TTL per endpoint. Endpoints which are missing use their default TTL. A TTL of zero
+     *                         revalidates every request and disables the parsed tier for that endpoint.
+     */
+    public ResponseCache(Path directory, long maxSizeBytes, long maxParsedEntries, Map<Endpoint, Duration> ttls) {
+        this.httpCache = new okhttp3.Cache(directory.toFile(), maxSizeBytes);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Duration ttl = ttls.getOrDefault(endpoint, endpoint.getDefaultTtl());
+            if (ttl.isNegative()) {
+                throw new IllegalArgumentException("ttl for " + endpoint + " must not be negative");
+            }
+            this.ttls.put(endpoint, ttl);
+            if (!ttl.isZero()) {
+                parsedCaches.put(endpoint, CacheBuilder.newBuilder()
+                        .maximumSize(maxParsedEntries)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Configure a client to use the disk cache and the endpoint TTLs.
+     *
+     * @param builder client builder
+     * @return the same builder
+     */
+    OkHttpClient.Builder configure(OkHttpClient.Builder builder) {
+        return builder.cache(httpCache)
+                .addNetworkInterceptor(this::applyTtl);
+    }
+
+    /**
+     * Replace the caching headers of API responses with the TTL of their endpoint, as the API itself does not allow
+     * caching.
+     */
+    private Response applyTtl(Interceptor.Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        Endpoint endpoint = Endpoint.of(chain.request().url());
+        if (endpoint == null || !(response.isSuccessful() || response.code() == 304)) {
+            return response;
+        }
+        return response.newBuilder()
+                .header("Cache-Control", "public, max-age=" + ttls.get(endpoint).toSeconds())
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    }
+
+    /**
+     * Get a parsed result from the in-memory tier, loading it on a miss. Concurrent lookups of the same key wait for a
+     * single load. Empty collections are not kept, so failed requests are retried on the next lookup.
+     *
+     * @param endpoint endpoint of the request
+     * @param key      key of the result, usually the requested url
+     * @param loader   loader for the value, should return an unmodifiable value
+     * @param <T>      type of the value
+     * @return cached or loaded value
+     * @throws IOException If loading fails.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(Endpoint endpoint, Object key, Loader<T> loader) throws IOException {
+        Cache<Object, Object> cache = parsedCaches.get(endpoint);
+        if (cache == null) {
+            return loader.load();
+        }
+        T value;
+        try {
+            value = (T) cache.get(key, loader::load);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        } catch (UncheckedExecutionException | ExecutionError e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+        if (value instanceof Collection<?> collection && collection.isEmpty()) {
+            cache.invalidate(key);
+        }
+        return value;
+    }
+
+    /**
+     * @return current hit and miss counts
+     */
+    public CacheStatistics getStatistics() {
+        long parsedHits = 0;
+        long parsedMisses = 0;
+        for (Cache<Object, Object> cache : parsedCaches.values()) {
+            parsedHits += cache.stats().hitCount();
+            parsedMisses += cache.stats().missCount();
+        }
+        return new CacheStatistics(httpCache.requestCount(), httpCache.hitCount(), httpCache.networkCount(),
+                                   parsedHits, parsedMisses);
+    }
+
+    /**
+     * Remove all entries from both tiers.
+     *
+     * @throws IOException If the disk cache could not be cleared.
+     */
+    public void clear() throws IOException {
+        parsedCaches.values().forEach(Cache::invalidateAll);
+        httpCache.evictAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpCache.close();
+    }
+}
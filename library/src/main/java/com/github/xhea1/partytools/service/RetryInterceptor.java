@@ -0,0 +1,100 @@
+package com.github.xhea1.partytools.service;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Interceptor which retries requests that were rejected because of rate limiting ({@code 429}) or an unavailable
+ * server ({@code 503}). The delay doubles with every attempt, unless the server sends a {@code Retry-After} header.
+ */
+@NullMarked
+class RetryInterceptor implements Interceptor {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    /**
+     * @param maxRetries     maximum amount of retries per request
+     * @param initialBackoff delay before the first retry, if the server does not send {@code Retry-After}
+     * @param maxBackoff     upper limit for all delays, including the ones requested by the server
+     */
+    RetryInterceptor(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        Duration backoff = initialBackoff;
+        for (int retry = 1; retry <= maxRetries && isRetryable(response.code()); retry++) {
+            Duration delay = getRetryAfter(response);
+            if (delay == null) {
+                delay = backoff;
+                backoff = backoff.multipliedBy(2);
+            }
+            if (delay.compareTo(maxBackoff) > 0) {
+                delay = maxBackoff;
+            }
+            LOGGER.debug("Request to {} failed with {}, retry {} of {} in {} ms", request.url(), response.code(),
+                         retry, maxRetries, delay.toMillis());
+            response.close();
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to retry " + request.url());
+            }
+            response = chain.proceed(request);
+        }
+        return response;
+    }
+
+    /**
+     * @param code HTTP status code
+     * @return {@code true} if a request with this status should be retried
+     */
+    private static boolean isRetryable(int code) {
+        return code == 429 || code == 503;
+    }
+
+    /**
+     * Read the {@code Retry-After} header, which is either an amount of seconds or an HTTP date.
+     *
+     * @param response response to read the header from
+     * @return the requested delay, or {@code null} if the header is missing or invalid
+     */
+    private static @Nullable Duration getRetryAfter(Response response) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            Date date = response.headers()
+                    .getDate("Retry-After");
+            if (date == null) {
+                return null;
+            }
+            Duration delay = Duration.between(Instant.now(), date.toInstant());
+            return delay.isNegative() ? Duration.ZERO : delay;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.github.xhea1.partytools.service.filter;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Filter for posts and their files. The filter is applied while parsing API responses, so posts which do not match
+ * are never turned into {@link com.github.xhea1.partytools.model.PostRecord PostRecords}.
+ * <p>
+ * Empty sets and {@code null} values mean that the respective criterion is not checked.
+ *
+ * @param publishedAfter  only include posts published at or after this instant
+ * @param publishedBefore only include posts published before this instant
+ * @param extensions      file extensions to include, without the leading dot (e.g. {@code mp4}). Case-insensitive.
+ * @param mimeTypes       MIME types to include, either exact (e.g. {@code image/png}) or with a wildcard subtype
+ *                        (e.g. {@code image/*}). The MIME type is derived from the file extension, files with
+ *                        an unknown extension never match.
+ * @param titlePattern    only include posts whose title contains a match for this pattern
+ */
+@NullMarked
+public record PostFilter(@Nullable Instant publishedAfter, @Nullable Instant publishedBefore, Set<String> extensions,
+                         Set<String> mimeTypes, @Nullable Pattern titlePattern) {
+
+    /**
+     * Filter which accepts all posts and files.
+     */
+    public static final PostFilter ALL = new PostFilter(null, null, Set.of(), Set.of(), null);
+
+    /**
+     * MIME types of common file extensions. An explicit table is used, as the one of the JDK only knows few media types
+     * and may be missing in native images.
+     */
+    private static final Map<String, String> MIME_TYPES = Map.ofEntries(
+            // images
+            Map.entry("jpg", "image/jpeg"), Map.entry("jpeg", "image/jpeg"), Map.entry("jpe", "image/jpeg"),
+            Map.entry("png", "image/png"), Map.entry("gif", "image/gif"), Map.entry("webp", "image/webp"),
+            Map.entry("bmp", "image/bmp"), Map.entry("avif", "image/avif"), Map.entry("heic", "image/heic"),
+            Map.entry("heif", "image/heif"), Map.entry("tif", "image/tiff"), Map.entry("tiff", "image/tiff"),
+            Map.entry("svg", "image/svg+xml"), Map.entry("psd", "image/vnd.adobe.photoshop"),
+            // videos
+            Map.entry("mp4", "video/mp4"), Map.entry("m4v", "video/x-m4v"), Map.entry("mov", "video/quicktime"),
+            Map.entry("mkv", "video/x-matroska"), Map.entry("webm", "video/webm"), Map.entry("avi", "video/x-msvideo"),
+            Map.entry("wmv", "video/x-ms-wmv"), Map.entry("flv", "video/x-flv"), Map.entry("mpg", "video/mpeg"),
+            Map.entry("mpeg", "video/mpeg"), Map.entry("ts", "video/mp2t"), Map.entry("3gp", "video/3gpp"),
+            // audio
+            Map.entry("mp3", "audio/mpeg"), Map.entry("m4a", "audio/mp4"), Map.entry("wav", "audio/wav"),
+            Map.entry("flac", "audio/flac"), Map.entry("ogg", "audio/ogg"), Map.entry("opus", "audio/opus"),
+            Map.entry("aac", "audio/aac"),
+            // documents and archives
+            Map.entry("pdf", "application/pdf"), Map.entry("txt", "text/plain"), Map.entry("zip", "application/zip"),
+            Map.entry("rar", "application/vnd.rar"), Map.entry("7z", "application/x-7z-compressed"));
+
+    /**
+     * Creates a filter for a date window given in whole days.
+     *
+     * @param from         first day to include (UTC), or {@code null} for no lower bound
+     * @param to           last day to include (UTC), or {@code null} for no upper bound
+     * @param extensions   file extensions to include
+     * @param mimeTypes    MIME types to include
+     * @param titlePattern pattern the title has to contain
+     * @return the filter
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    public static PostFilter ofDates(@Nullable LocalDate from, @Nullable LocalDate to, Set<String> extensions,
+                                     Set<String> mimeTypes, @Nullable Pattern titlePattern) {
+        return new PostFilter(from != null ? from.atStartOfDay(ZoneOffset.UTC)
+                .toInstant() : null, to != null ? to.plusDays(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant() : null, extensions, mimeTypes, titlePattern);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code publishedAfter} is not before {@code publishedBefore}
+     */
+    public PostFilter {
+        if (publishedAfter != null && publishedBefore != null && !publishedAfter.isBefore(publishedBefore)) {
+            throw new IllegalArgumentException("publishedAfter must be before publishedBefore");
+        }
+        extensions = extensions.stream()
+                .map(e -> e.startsWith(".") ? e.substring(1) : e)
+                .map(e -> e.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        mimeTypes = mimeTypes.stream()
+                .map(m -> m.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Compares the title pattern by its expression and flags, as {@link Pattern} does not implement equality.
+     */
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PostFilter other)) {
+            return false;
+        }
+        return Objects.equals(publishedAfter, other.publishedAfter)
+                && Objects.equals(publishedBefore, other.publishedBefore)
+                && extensions.equals(other.extensions)
+                && mimeTypes.equals(other.mimeTypes)
+                && Objects.equals(patternKey(), other.patternKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(publishedAfter, publishedBefore, extensions, mimeTypes, patternKey());
+    }
+
+    /**
+     * @return expression and flags of the title pattern, or {@code null} if there is none
+     */
+    private @Nullable String patternKey() {
+        return titlePattern != null ? titlePattern.flags() + "/" + titlePattern.pattern() : null;
+    }
+
+    /**
+     * @return {@code true} if this filter restricts the publishing date of posts
+     */
+    public boolean hasDateWindow() {
+        return publishedAfter != null || publishedBefore != null;
+    }
+
+    /**
+     * @return {@code true} if this filter restricts which files of a post are included
+     */
+    public boolean hasFileCriteria() {
+        return !extensions.isEmpty() || !mimeTypes.isEmpty();
+    }
+
+    /**
+     * Check the post-level criteria. Posts without a parsable publishing date never match a date window.
+     *
+     * @param published publishing date of the post, or {@code null} if unknown
+     * @param title     title of the post
+     * @return {@code true} if the post matches the date window and title pattern
+     */
+    public boolean matchesPost(@Nullable Instant published, String title) {
+        if (hasDateWindow()) {
+            if (published == null) {
+                return false;
+            }
+            if (publishedAfter != null && published.isBefore(publishedAfter)) {
+                return false;
+            }
+            if (publishedBefore != null && !published.isBefore(publishedBefore)) {
+                return false;
+            }
+        }
+        return titlePattern == null || titlePattern.matcher(title).find();
+    }
+
+    /**
+     * Check whether a post lies before the date window. As posts are returned newest first, no later post can match
+     * once this is the case.
+     *
+     * @param published publishing date of the post, or {@code null} if unknown
+     * @return {@code true} if the post was published before {@link #publishedAfter()}
+     */
+    public boolean isPastWindow(@Nullable Instant published) {
+        return publishedAfter != null && published != null && published.isBefore(publishedAfter);
+    }
+
+    /**
+     * Check the file-level criteria.
+     *
+     * @param fileName name of the file
+     * @return {@code true} if the file matches the extension and MIME type criteria
+     */
+    public boolean matchesFile(String fileName) {
+        String extension = getExtension(fileName);
+        if (!extensions.isEmpty() && !extensions.contains(extension)) {
+            return false;
+        }
+        return mimeTypes.isEmpty() || matchesMimeType(MIME_TYPES.get(extension));
+    }
+
+    /**
+     * @param mimeType MIME type of the file, {@code null} if the extension is unknown
+     * @return {@code true} if the MIME type matches one of {@link #mimeTypes()}
+     */
+    private boolean matchesMimeType(@Nullable String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        if (mimeTypes.contains(mimeType)) {
+            return true;
+        }
+        int slash = mimeType.indexOf('/');
+        return slash > 0 && mimeTypes.contains(mimeType.substring(0, slash) + "/*");
+    }
+
+    /**
+     * @param fileName name of the file
+     * @return lower case extension without the leading dot, or an empty string if there is none
+     */
+    private static String getExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
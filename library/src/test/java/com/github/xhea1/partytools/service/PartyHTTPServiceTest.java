@@ -0,0 +1,206 @@
+package com.github.xhea1.partytools.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.xhea1.partytools.model.FileRecord;
+import com.github.xhea1.partytools.model.PostRecord;
+import com.github.xhea1.partytools.service.filter.PostFilter;
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static com.github.xhea1.partytools.service.PartyHTTPService.PAGE_SIZE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartyHTTPServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final LocalDateTime NEWEST = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    private MockWebServer server;
+    private PartyHTTPService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        service = new PartyHTTPService(server.url("/")
+                                               .toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    void fullPageIsNotLast() {
+        assertFalse(new PartyHTTPService.Page(List.of(), PAGE_SIZE, "2", false).isLast(null));
+        assertFalse(new PartyHTTPService.Page(List.of(), PAGE_SIZE, "2", false).isLast("1"));
+    }
+
+    @Test
+    void shortPageIsLast() {
+        assertTrue(new PartyHTTPService.Page(List.of(), PAGE_SIZE - 1, "2", false).isLast("1"));
+        assertTrue(PartyHTTPService.Page.empty().isLast(null));
+    }
+
+    @Test
+    void pagePastDateWindowIsLast() {
+        assertTrue(new PartyHTTPService.Page(List.of(), PAGE_SIZE, "2", true).isLast("1"));
+    }
+
+    @Test
+    void repeatedPageIsLast() {
+        assertTrue(new PartyHTTPService.Page(List.of(), PAGE_SIZE, "1", false).isLast("1"));
+    }
+
+    @Test
+    void postIsDroppedByTitle() throws IOException {
+        PostFilter filter = new PostFilter(null, null, Set.of(), Set.of(), Pattern.compile("part \\d"));
+        PartyHTTPService.Page page = PartyHTTPService.parsePage(json(
+                "[" + post("1", "comic part 1", NEWEST, "a.jpg") + "," + post("2", "sketch", NEWEST, "b.jpg") + "]"),
+                                                                filter);
+        assertEquals(List.of("1"), ids(page.posts()));
+        assertEquals(2, page.size());
+    }
+
+    @Test
+    void postWithoutMatchingFilesIsDropped() throws IOException {
+        PostFilter filter = new PostFilter(null, null, Set.of("mp4"), Set.of(), null);
+        PartyHTTPService.Page page = PartyHTTPService.parsePage(json(
+                "[" + post("1", "video", NEWEST, "a.mp4") + "," + post("2", "images", NEWEST, "b.jpg", "c.png") + "]"),
+                                                                filter);
+        assertEquals(List.of("1"), ids(page.posts()));
+    }
+
+    @Test
+    void nonMatchingAttachmentsAreRemoved() throws IOException {
+        PostFilter filter = new PostFilter(null, null, Set.of("mp4"), Set.of(), null);
+        PartyHTTPService.Page page = PartyHTTPService.parsePage(
+                json("[" + post("1", "mixed", NEWEST, "a.jpg", "b.mp4", "c.png", "d.mp4") + "]"), filter);
+        PostRecord post = page.posts()
+                .getFirst();
+        assertTrue(post.file()
+                           .isEmpty());
+        assertEquals(List.of("b.mp4", "d.mp4"), post.attachments()
+                .stream()
+                .map(FileRecord::name)
+                .toList());
+    }
+
+    @Test
+    void unfilteredPostsAreKept() throws IOException {
+        PartyHTTPService.Page page = PartyHTTPService.parsePage(
+                json("{\"posts\": [" + post("1", "mixed", NEWEST, "a.jpg", "b.mp4") + "]}"), PostFilter.ALL);
+        PostRecord post = page.posts()
+                .getFirst();
+        assertEquals("a.jpg", post.file()
+                .orElseThrow()
+                .name());
+        assertEquals(1, post.attachments()
+                .size());
+    }
+
+    @Test
+    void pagingStopsOncePastDateWindow() throws IOException {
+        // posts are one day apart, so the 12th post is the first one before the window
+        server.enqueue(page(0, PAGE_SIZE));
+        server.enqueue(page(PAGE_SIZE, PAGE_SIZE));
+        PostFilter filter = PostFilter.ofDates(LocalDate.of(2024, 2, 20), null, Set.of(), Set.of(), null);
+
+        List<PostRecord> posts = service.getPostsForUser("patreon", "1", filter);
+
+        assertEquals(11, posts.size());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void allPagesAreFetched() throws IOException {
+        server.enqueue(page(0, PAGE_SIZE));
+        server.enqueue(page(PAGE_SIZE, 3));
+
+        List<PostRecord> posts = service.getPostsForUser("patreon", "1");
+
+        assertEquals(PAGE_SIZE + 3, posts.size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void failedPageThrows() {
+        server.enqueue(page(0, PAGE_SIZE));
+        server.enqueue(new MockResponse.Builder().code(500)
+                               .build());
+
+        assertThrows(IOException.class, () -> service.getPostsForUser("patreon", "1"));
+    }
+
+    @Test
+    void rateLimitedPageIsRetried() throws IOException {
+        server.enqueue(new MockResponse.Builder().code(429)
+                               .addHeader("Retry-After", "0")
+                               .build());
+        server.enqueue(page(0, 3));
+
+        assertEquals(3, service.getPostsForUser("patreon", "1")
+                .size());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    /**
+     * @param offset index of the first post, posts are published one day apart starting at {@link #NEWEST}
+     * @param size   amount of posts on the page
+     * @return response with a page of posts
+     */
+    private static MockResponse page(int offset, int size) {
+        List<String> posts = new ArrayList<>();
+        for (int i = offset; i < offset + size; i++) {
+            posts.add(post(String.valueOf(i), "post " + i, NEWEST.minusDays(i), "file" + i + ".jpg"));
+        }
+        return new MockResponse.Builder().body("[" + String.join(",", posts) + "]")
+                .build();
+    }
+
+    /**
+     * @param files name of the main file, followed by the names of the attachments
+     * @return JSON of a post
+     */
+    private static String post(String id, String title, LocalDateTime published, String... files) {
+        List<String> attachments = new ArrayList<>();
+        for (int i = 1; i < files.length; i++) {
+            attachments.add(file(files[i]));
+        }
+        return """
+                {"id": "%s", "user": "1", "service": "patreon", "title": "%s", "published": "%s",
+                 "file": %s, "attachments": [%s]}""".formatted(id, title, published,
+                                                              files.length > 0 ? file(files[0]) : "{}",
+                                                              String.join(",", attachments));
+    }
+
+    private static String file(String name) {
+        return "{\"name\": \"%s\", \"path\": \"/aa/bb/%s\"}".formatted(name, name);
+    }
+
+    private static JsonNode json(String json) throws IOException {
+        return OBJECT_MAPPER.readTree(json);
+    }
+
+    private static List<String> ids(List<PostRecord> posts) {
+        return posts.stream()
+                .map(PostRecord::id)
+                .toList();
+    }
+}
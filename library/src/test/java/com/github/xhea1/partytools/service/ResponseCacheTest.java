@@ -0,0 +1,233 @@
+package com.github.xhea1.partytools.service;
+
+import mockwebserver3.MockResponse;
+import mockwebserver3.MockWebServer;
+import mockwebserver3.RecordedRequest;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResponseCacheTest {
+
+    private static final String HASH_PATH = "/api/v1/search_hash/abc";
+
+    @TempDir
+    Path cacheDir;
+
+    private MockWebServer server;
+    private ResponseCache cache;
+    private OkHttpClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        useCache(new ResponseCache(cacheDir, 1024 * 1024, 10));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        cache.close();
+        server.close();
+    }
+
+    @Test
+    void endpointOfClassifiesApiUrls() {
+        assertEquals(ResponseCache.Endpoint.SEARCH_HASH,
+                     ResponseCache.Endpoint.of(HttpUrl.get("https://kemono.su/api/v1/search_hash/abc")));
+        assertEquals(ResponseCache.Endpoint.USER_POSTS,
+                     ResponseCache.Endpoint.of(HttpUrl.get("https://kemono.su/api/v1/patreon/user/1?o=50")));
+        assertEquals(ResponseCache.Endpoint.CREATORS,
+                     ResponseCache.Endpoint.of(HttpUrl.get("https://kemono.su/api/v1/creators.txt")));
+        assertNull(ResponseCache.Endpoint.of(HttpUrl.get("https://kemono.su/api/v1/app_version")));
+        assertNull(ResponseCache.Endpoint.of(HttpUrl.get("https://kemono.su/data/aa/bb/file.jpg")));
+    }
+
+    @Test
+    void freshResponseIsServedFromDisk() throws IOException {
+        server.enqueue(new MockResponse.Builder().body("[1]")
+                               .addHeader("Cache-Control", "no-store")
+                               .addHeader("Pragma", "no-cache")
+                               .build());
+
+        try (Response response = get(HASH_PATH)) {
+            assertEquals("[1]", response.body()
+                    .string());
+            assertEquals("public, max-age=3600", response.header("Cache-Control"));
+            assertNull(response.header("Pragma"));
+        }
+        try (Response response = get(HASH_PATH)) {
+            assertEquals("[1]", response.body()
+                    .string());
+        }
+
+        assertEquals(1, server.getRequestCount());
+        ResponseCache.CacheStatistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.httpRequests());
+        assertEquals(1, statistics.httpHits());
+        assertEquals(1, statistics.httpNetwork());
+    }
+
+    @Test
+    void expiredResponseIsRevalidated() throws Exception {
+        cache.close();
+        useCache(new ResponseCache(cacheDir, 1024 * 1024, 10, Map.of(ResponseCache.Endpoint.SEARCH_HASH,
+                                                                     Duration.ZERO)));
+        server.enqueue(new MockResponse.Builder().body("[1]")
+                               .addHeader("ETag", "\"v1\"")
+                               .build());
+        server.enqueue(new MockResponse.Builder().code(304)
+                               .build());
+
+        try (Response response = get(HASH_PATH)) {
+            response.body()
+                    .string();
+        }
+        try (Response response = get(HASH_PATH)) {
+            assertEquals("[1]", response.body()
+                    .string());
+        }
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeaders()
+                .get("If-None-Match"));
+        ResponseCache.CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.httpHits());
+        assertEquals(2, statistics.httpNetwork());
+    }
+
+    @Test
+    void otherResponsesKeepTheirHeaders() throws IOException {
+        server.enqueue(new MockResponse.Builder().body("data")
+                               .addHeader("Cache-Control", "no-store")
+                               .build());
+        server.enqueue(new MockResponse.Builder().body("data")
+                               .build());
+
+        try (Response response = get("/data/aa/bb/file.jpg")) {
+            assertEquals("no-store", response.header("Cache-Control"));
+        }
+        get("/data/aa/bb/file.jpg").close();
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void errorResponsesAreNotCached() throws IOException {
+        server.enqueue(new MockResponse.Builder().code(500)
+                               .build());
+        server.enqueue(new MockResponse.Builder().body("[1]")
+                               .build());
+
+        get(HASH_PATH).close();
+        try (Response response = get(HASH_PATH)) {
+            assertEquals("[1]", response.body()
+                    .string());
+        }
+
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void parsedHitSkipsLoader() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        ResponseCache.Loader<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of("post");
+        };
+
+        assertEquals(List.of("post"), cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", loader));
+        assertEquals(List.of("post"), cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", loader));
+
+        assertEquals(1, loads.get());
+        ResponseCache.CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.parsedHits());
+        assertEquals(1, statistics.parsedMisses());
+    }
+
+    @Test
+    void emptyResultIsLoadedAgain() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+        ResponseCache.Loader<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+
+        cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", loader);
+        cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsUnwrappedAndLoadedAgain() throws IOException {
+        IOException failure = new IOException("failed");
+        assertSame(failure, assertThrows(IOException.class, () -> cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key",
+                                                                            () -> {
+                                                                                throw failure;
+                                                                            })));
+        IllegalStateException runtimeFailure = new IllegalStateException("failed");
+        assertSame(runtimeFailure, assertThrows(IllegalStateException.class,
+                                                () -> cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", () -> {
+                                                    throw runtimeFailure;
+                                                })));
+
+        assertEquals(List.of("post"), cache.get(ResponseCache.Endpoint.SEARCH_HASH, "key", () -> List.of("post")));
+    }
+
+    @Test
+    void zeroTtlDisablesParsedTier() throws IOException {
+        cache.close();
+        useCache(new ResponseCache(cacheDir, 1024 * 1024, 10, Map.of(ResponseCache.Endpoint.USER_POSTS,
+                                                                     Duration.ZERO)));
+        AtomicInteger loads = new AtomicInteger();
+        ResponseCache.Loader<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return List.of("post");
+        };
+
+        cache.get(ResponseCache.Endpoint.USER_POSTS, "key", loader);
+        cache.get(ResponseCache.Endpoint.USER_POSTS, "key", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStatistics()
+                .parsedMisses());
+    }
+
+    @Test
+    void negativeTtlIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ResponseCache(cacheDir, 1024, 10, Map.of(ResponseCache.Endpoint.CREATORS,
+                                                                        Duration.ofSeconds(-1))));
+    }
+
+    private void useCache(ResponseCache responseCache) {
+        cache = responseCache;
+        client = cache.configure(new OkHttpClient.Builder())
+                .build();
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path))
+                                      .build())
+                .execute();
+    }
+}
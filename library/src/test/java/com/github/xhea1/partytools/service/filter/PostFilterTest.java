@@ -0,0 +1,121 @@
+package com.github.xhea1.partytools.service.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostFilterTest {
+
+    private static final PostFilter JANUARY = PostFilter.ofDates(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                                                                 Set.of(), Set.of(), null);
+
+    @Test
+    void dateWindowIncludesFirstDay() {
+        assertTrue(JANUARY.matchesPost(Instant.parse("2024-01-01T00:00:00Z"), ""));
+        assertFalse(JANUARY.matchesPost(Instant.parse("2023-12-31T23:59:59Z"), ""));
+    }
+
+    @Test
+    void dateWindowIncludesWholeLastDay() {
+        assertTrue(JANUARY.matchesPost(Instant.parse("2024-01-31T23:59:59Z"), ""));
+        assertFalse(JANUARY.matchesPost(Instant.parse("2024-02-01T00:00:00Z"), ""));
+    }
+
+    @Test
+    void singleDayWindow() {
+        PostFilter filter = PostFilter.ofDates(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1), Set.of(), Set.of(),
+                                               null);
+        assertTrue(filter.matchesPost(Instant.parse("2024-01-01T12:00:00Z"), ""));
+    }
+
+    @Test
+    void invertedWindowIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> PostFilter.ofDates(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), Set.of(), Set.of(),
+                                              null));
+        Instant instant = Instant.parse("2024-01-01T00:00:00Z");
+        assertThrows(IllegalArgumentException.class,
+                     () -> new PostFilter(instant, instant, Set.of(), Set.of(), null));
+    }
+
+    @Test
+    void dateWindowRejectsUnknownDate() {
+        assertFalse(JANUARY.matchesPost(null, ""));
+        assertTrue(PostFilter.ALL.matchesPost(null, ""));
+    }
+
+    @Test
+    void titlePatternMatchesSubstring() {
+        PostFilter filter = new PostFilter(null, null, Set.of(), Set.of(), Pattern.compile("(?i)part \\d"));
+        assertTrue(filter.matchesPost(null, "Comic PART 2 (final)"));
+        assertFalse(filter.matchesPost(null, "Comic"));
+    }
+
+    @Test
+    void isPastWindow() {
+        assertTrue(JANUARY.isPastWindow(Instant.parse("2023-12-31T23:59:59Z")));
+        assertFalse(JANUARY.isPastWindow(Instant.parse("2024-01-01T00:00:00Z")));
+        // posts after the window are skipped, but do not end paging
+        assertFalse(JANUARY.isPastWindow(Instant.parse("2024-03-01T00:00:00Z")));
+    }
+
+    @Test
+    void isPastWindowWithUnknownDate() {
+        assertFalse(JANUARY.isPastWindow(null));
+        assertFalse(PostFilter.ALL.isPastWindow(null));
+    }
+
+    @Test
+    void extensionsAreNormalized() {
+        PostFilter filter = new PostFilter(null, null, Set.of(".JPG", "png"), Set.of(), null);
+        assertTrue(filter.matchesFile("a.jpg"));
+        assertTrue(filter.matchesFile("b.PNG"));
+        assertFalse(filter.matchesFile("c.gif"));
+        assertFalse(filter.matchesFile("jpg"));
+    }
+
+    @Test
+    void mimeTypesSupportWildcards() {
+        PostFilter filter = new PostFilter(null, null, Set.of(), Set.of("video/*", "image/png"), null);
+        assertTrue(filter.matchesFile("a.mp4"));
+        assertTrue(filter.matchesFile("a.mkv"));
+        assertTrue(filter.matchesFile("a.png"));
+        assertFalse(filter.matchesFile("a.jpg"));
+        assertFalse(filter.matchesFile("a.unknown"));
+    }
+
+    @Test
+    void extensionAndMimeTypeMustBothMatch() {
+        PostFilter filter = new PostFilter(null, null, Set.of("mp4", "jpg"), Set.of("video/*"), null);
+        assertTrue(filter.matchesFile("a.mp4"));
+        assertFalse(filter.matchesFile("a.jpg"));
+        assertFalse(filter.matchesFile("a.mkv"));
+    }
+
+    @Test
+    void fileCriteria() {
+        assertFalse(PostFilter.ALL.hasFileCriteria());
+        assertFalse(JANUARY.hasFileCriteria());
+        assertTrue(new PostFilter(null, null, Set.of("mp4"), Set.of(), null).hasFileCriteria());
+        assertTrue(PostFilter.ALL.matchesFile("anything"));
+    }
+
+    @Test
+    void equalityComparesTitlePatterns() {
+        PostFilter a = new PostFilter(null, null, Set.of("mp4"), Set.of(), Pattern.compile("part"));
+        PostFilter b = new PostFilter(null, null, Set.of("MP4"), Set.of(), Pattern.compile("part"));
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        Pattern caseInsensitive = Pattern.compile("part", Pattern.CASE_INSENSITIVE);
+        assertNotEquals(a, new PostFilter(null, null, Set.of("mp4"), Set.of(), caseInsensitive));
+    }
+}